@@ -0,0 +1,133 @@
+package simpledb.systemtest;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import simpledb.common.Database;
+import simpledb.common.DbException;
+import simpledb.common.Permissions;
+import simpledb.storage.HeapFile;
+import simpledb.storage.HeapPageId;
+import simpledb.storage.Page;
+import simpledb.transaction.Transaction;
+import simpledb.transaction.TransactionAbortedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests concurrent page lookups through the BufferPool page table.
+ * Every thread runs its own read-only transaction over the same pages, so
+ * no thread ever has to wait on a lock and the measured rate reflects the
+ * cost of the page table itself.
+ */
+public class BufferPoolThroughputTest extends SimpleDbTestBase {
+    // Wait up to 10 minutes for the test to complete
+    private static final int TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private static final int ROUNDS = 2000;
+
+    private void validateThroughput(int threads)
+            throws DbException, TransactionAbortedException, IOException {
+        // Allocate a file with ~10 pages of data, all of which fit in the pool
+        HeapFile table = SystemTestUtil.createRandomHeapFile(2, 512 * 10, null, null);
+        int numPages = table.numPages();
+
+        CountDownLatch latch = new CountDownLatch(threads);
+        Reader[] list = new Reader[threads];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = new Reader(table.getId(), numPages, latch);
+            list[i].start();
+        }
+
+        long start = System.currentTimeMillis();
+        long stopTestTime = start + TIMEOUT_MILLIS;
+        for (Reader reader : list) {
+            long timeout = stopTestTime - System.currentTimeMillis();
+            if (timeout <= 0) {
+                fail("Timed out waiting for readers to complete");
+            }
+            try {
+                reader.join(timeout);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            if (reader.isAlive()) {
+                fail("Timed out waiting for readers to complete");
+            }
+
+            if (reader.exception != null) {
+                // Rethrow any exception from a child thread
+                throw new RuntimeException("Child thread threw an exception.", reader.exception);
+            }
+            assertEquals((long) ROUNDS * numPages, reader.lookups);
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        long lookups = (long) threads * ROUNDS * numPages;
+        System.out.println(threads + " threads: " + lookups + " lookups in " + elapsed
+                + " ms (" + (lookups * 1000 / elapsed) + " lookups/s)");
+    }
+
+    private static class Reader extends Thread {
+        private final int tableId;
+        private final int numPages;
+        private final CountDownLatch latch;
+        public Exception exception = null;
+        public long lookups = 0;
+
+        public Reader(int tableId, int numPages, CountDownLatch latch) {
+            this.tableId = tableId;
+            this.numPages = numPages;
+            this.latch = latch;
+        }
+
+        public void run() {
+            try {
+                // Wait for all threads to be ready
+                latch.countDown();
+                latch.await();
+
+                Transaction tr = new Transaction();
+                tr.start();
+                for (int round = 0; round < ROUNDS; round++) {
+                    for (int i = 0; i < numPages; i++) {
+                        Page p = Database.getBufferPool().getPage(tr.getId(),
+                                new HeapPageId(tableId, i), Permissions.READ_ONLY);
+                        assertEquals(i, p.getId().getPageNumber());
+                        lookups++;
+                    }
+                }
+                tr.commit();
+            } catch (Exception e) {
+                // Store exception for the master thread to handle
+                exception = e;
+            }
+        }
+    }
+
+    @Test
+    public void testSingleThread()
+            throws IOException, DbException, TransactionAbortedException {
+        validateThroughput(1);
+    }
+
+    @Test
+    public void testFourThreads()
+            throws IOException, DbException, TransactionAbortedException {
+        validateThroughput(4);
+    }
+
+    @Test
+    public void testSixteenThreads()
+            throws IOException, DbException, TransactionAbortedException {
+        validateThroughput(16);
+    }
+
+    /**
+     * Make test compatible with older version of ant.
+     */
+    public static junit.framework.Test suite() {
+        return new junit.framework.JUnit4TestAdapter(BufferPoolThroughputTest.class);
+    }
+}
@@ -0,0 +1,118 @@
+package simpledb.systemtest;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.Test;
+
+import simpledb.common.Database;
+import simpledb.common.DbException;
+import simpledb.common.Utility;
+import simpledb.execution.Insert;
+import simpledb.execution.SeqScan;
+import simpledb.storage.*;
+import simpledb.transaction.Transaction;
+import simpledb.transaction.TransactionAbortedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures how long recovery takes as the log grows.
+ * Each test commits a number of transactions, leaves one loser transaction
+ * whose pages were forced to disk, crashes and times LogFile.recover().
+ */
+public class LogRecoveryTest extends SimpleDbTestBase {
+    File file;
+    HeapFile hf;
+
+    void insertRow(Transaction t, int v1)
+        throws DbException, TransactionAbortedException {
+        TupleDesc twoIntColumns = Utility.getTupleDesc(2);
+        Tuple value = new Tuple(twoIntColumns);
+        value.setField(0, new IntField(v1));
+        value.setField(1, new IntField(0));
+        TupleIterator insertRow = new TupleIterator(twoIntColumns, Collections.singletonList(value));
+
+        Insert insert = new Insert(t.getId(), insertRow, hf.getId());
+        insert.open();
+        insert.next();
+        insert.close();
+    }
+
+    // count how many tuples have the given value in their first field
+    int count(Transaction t, int v1)
+        throws DbException, TransactionAbortedException {
+        int count = 0;
+        SeqScan scan = new SeqScan(t.getId(), hf.getId(), "");
+        scan.open();
+        while (scan.hasNext()) {
+            if (((IntField) scan.next().getField(0)).getValue() == v1)
+                count++;
+        }
+        scan.close();
+        return count;
+    }
+
+    private void validateRecovery(int transactions)
+            throws IOException, DbException, TransactionAbortedException {
+        Database.reset();
+        file = new File("recovery.db");
+        file.delete();
+        hf = Utility.createEmptyHeapFile(file.getAbsolutePath(), 2);
+
+        // committed work, each transaction also writes its page to the log
+        for (int i = 0; i < transactions; i++) {
+            Transaction t = new Transaction();
+            t.start();
+            insertRow(t, i);
+            Database.getBufferPool().flushAllPages();
+            t.commit();
+        }
+
+        // loser transaction caught mid-workload
+        Transaction loser = new Transaction();
+        loser.start();
+        insertRow(loser, -1);
+        Database.getBufferPool().flushAllPages(); // XXX something to UNDO
+        insertRow(loser, -2);
+
+        long records = Database.getLogFile().getTotalRecords();
+
+        // simulate crash
+        Database.reset();
+        hf = Utility.openHeapFile(2, file);
+        long start = System.nanoTime();
+        Database.getLogFile().recover();
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        System.out.println(transactions + " transactions, " + records
+                + " log records: recovered in " + elapsed + " ms");
+
+        Transaction t = new Transaction();
+        t.start();
+        assertEquals(1, count(t, 0));
+        assertEquals(1, count(t, transactions - 1));
+        assertEquals(0, count(t, -1));
+        assertEquals(0, count(t, -2));
+        t.commit();
+    }
+
+    @Test public void testSmallLog()
+            throws IOException, DbException, TransactionAbortedException {
+        validateRecovery(10);
+    }
+
+    @Test public void testMediumLog()
+            throws IOException, DbException, TransactionAbortedException {
+        validateRecovery(100);
+    }
+
+    @Test public void testLargeLog()
+            throws IOException, DbException, TransactionAbortedException {
+        validateRecovery(1000);
+    }
+
+    /** Make test compatible with older version of ant. */
+    public static junit.framework.Test suite() {
+        return new junit.framework.JUnit4TestAdapter(LogRecoveryTest.class);
+    }
+}